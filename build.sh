@@ -12,12 +12,19 @@ mkdir -p bin
 # Compile utilities
 echo "Compiling utilities..."
 javac -d bin src/utils/MandelbrotUtils.java
+javac -d bin src/utils/RenderScheduler.java
 
 # Compile main programs
 echo "Compiling main programs..."
 javac -cp bin -d bin src/main/MandelbrotSequential.java
 javac -cp bin -d bin src/main/MandelbrotRowBasedSolution.java
 javac -cp bin -d bin src/main/PerformanceBenchmark.java
+javac -cp bin -d bin src/main/FloatPrecisionValidation.java
+javac -cp bin -d bin src/main/MandelbrotBuddhabrot.java
+javac -cp bin -d bin src/main/BuddhabrotBenchmark.java
+javac -cp bin -d bin src/main/MultiTenantRenderDemo.java
+javac -cp bin -d bin src/main/MandelbrotIncremental.java
+javac -cp bin -d bin src/main/MacroBenchmark.java
 
 # Compile templates (may have TODOs, so might fail - that's okay)
 echo "Compiling student templates..."
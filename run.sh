@@ -11,6 +11,12 @@ if [ $# -lt 1 ]; then
     echo "  forkjoin            - Run ForkJoin solution"
     echo "  compare             - Compare all approaches"
     echo "  benchmark           - Run performance benchmark"
+    echo "  floatcheck          - Validate float kernel against double"
+    echo "  buddhabrot          - Run orbit-density (Buddhabrot) renderer"
+    echo "  buddhabench         - Benchmark Buddhabrot accumulation scaling"
+    echo "  multitenant         - Concurrent renders on a shared scheduler"
+    echo "  incremental         - Pan and deepen reusing the previous frame"
+    echo "  macrobench          - Forked-JVM scaling benchmark with Amdahl fit"
     echo ""
     echo "Examples:"
     echo "  ./run.sh sequential"
@@ -18,6 +24,11 @@ if [ $# -lt 1 ]; then
     echo "  ./run.sh tilebased 800 600 1000 4 50"
     echo "  ./run.sh forkjoin 800 600 1000 5000"
     echo "  ./run.sh compare"
+    echo "  ./run.sh floatcheck 800 600 1000"
+    echo "  ./run.sh buddhabrot 800 600 1000 4 2000000"
+    echo "  ./run.sh multitenant shared 4"
+    echo "  ./run.sh incremental 800 600 1000 4 40 -25"
+    echo "  ./run.sh macrobench --scenarios full,tiny --baseline macro_baseline.csv"
     exit 1
 fi
 
@@ -44,6 +55,24 @@ case $PROGRAM in
     benchmark)
         java -cp bin PerformanceBenchmark "$@"
         ;;
+    floatcheck)
+        java -cp bin FloatPrecisionValidation "$@"
+        ;;
+    buddhabrot)
+        java -cp bin MandelbrotBuddhabrot "$@"
+        ;;
+    buddhabench)
+        java -cp bin BuddhabrotBenchmark "$@"
+        ;;
+    multitenant)
+        java -cp bin MultiTenantRenderDemo "$@"
+        ;;
+    incremental)
+        java -cp bin MandelbrotIncremental "$@"
+        ;;
+    macrobench)
+        java -cp bin MacroBenchmark "$@"
+        ;;
     *)
         echo "Unknown program: $PROGRAM"
         echo "Run './run.sh' without arguments to see usage."
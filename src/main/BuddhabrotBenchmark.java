@@ -0,0 +1,105 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scaling benchmark for the Buddhabrot renderer.
+ * Compares shared atomic accumulation against per-thread histogram shards
+ * across thread counts, using the statistics from PerformanceBenchmark.
+ */
+public class BuddhabrotBenchmark {
+
+    public static PerformanceBenchmark.BenchmarkResult runBenchmark(MandelbrotBuddhabrot.Accumulation mode,
+                                                                    int width, int height, int maxIter,
+                                                                    long samples, int numThreads,
+                                                                    int warmup, int iterations,
+                                                                    double sequentialTime, int[] reference) {
+        System.out.println("\n=== Buddhabrot " + mode + " (threads=" + numThreads + ") ===");
+
+        MandelbrotBuddhabrot b = new MandelbrotBuddhabrot(width, height, maxIter, samples);
+
+        // Warmup
+        for (int i = 0; i < warmup; i++) {
+            b.computeHistogram(numThreads, mode);
+        }
+
+        // Timed runs
+        double[] times = new double[iterations];
+        int[] histogram = null;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            histogram = b.computeHistogram(numThreads, mode);
+            long end = System.nanoTime();
+            times[i] = (end - start) / 1_000_000_000.0;
+            System.out.printf("  Run %d: %.3f seconds%n", i + 1, times[i]);
+        }
+
+        // Sampling is seeded per batch, so every configuration must produce the same histogram
+        if (reference != null && !Arrays.equals(reference, histogram)) {
+            System.err.println("  WARNING: histogram differs from the single-threaded reference");
+        }
+
+        PerformanceBenchmark.BenchmarkResult result =
+                new PerformanceBenchmark.BenchmarkResult("Buddhabrot-" + mode, numThreads, 0);
+        result.computeStatistics(times, sequentialTime > 0 ? sequentialTime : times[0]);
+        System.out.println("\nResults: " + result);
+        return result;
+    }
+
+    public static void main(String[] args) {
+        int width = 800;
+        int height = 600;
+        int maxIter = 1000;
+        long samples = 2_000_000;
+        int warmupRuns = 1;
+        int benchmarkRuns = 3;
+
+        if (args.length >= 4) {
+            width = Integer.parseInt(args[0]);
+            height = Integer.parseInt(args[1]);
+            maxIter = Integer.parseInt(args[2]);
+            samples = Long.parseLong(args[3]);
+        }
+
+        System.out.println("Buddhabrot Scaling Benchmark");
+        System.out.println("============================");
+        System.out.println("Image size: " + width + "x" + height);
+        System.out.println("Max iterations: " + maxIter);
+        System.out.println("Samples: " + samples);
+        System.out.println("Warmup runs: " + warmupRuns);
+        System.out.println("Benchmark runs: " + benchmarkRuns);
+
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t *= 2) {
+            threadCounts.add(t);
+        }
+        threadCounts.add(maxThreads);
+        threadCounts.add(maxThreads * 2);
+
+        List<PerformanceBenchmark.BenchmarkResult> allResults = new ArrayList<>();
+        int[] reference = new MandelbrotBuddhabrot(width, height, maxIter, samples)
+                .computeHistogram(1, MandelbrotBuddhabrot.Accumulation.SHARDED);
+
+        for (MandelbrotBuddhabrot.Accumulation mode : MandelbrotBuddhabrot.Accumulation.values()) {
+            System.out.println("\n--- " + mode + " accumulation ---");
+            double sequentialTime = 0;
+            for (int threads : threadCounts) {
+                PerformanceBenchmark.BenchmarkResult result = runBenchmark(mode, width, height, maxIter,
+                        samples, threads, warmupRuns, benchmarkRuns, sequentialTime, reference);
+                if (threads == 1) {
+                    sequentialTime = result.avgTime;
+                }
+                allResults.add(result);
+            }
+        }
+
+        // Summary
+        System.out.println("\n\n=== BENCHMARK SUMMARY ===");
+        for (PerformanceBenchmark.BenchmarkResult result : allResults) {
+            System.out.println(result);
+        }
+
+        PerformanceBenchmark.saveResultsToCsv(allResults, "buddhabrot_benchmark.csv");
+    }
+}
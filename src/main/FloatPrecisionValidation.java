@@ -0,0 +1,134 @@
+/**
+ * Validation harness for the single-precision Mandelbrot kernel.
+ * Renders the same viewport with the double kernel and the float kernels
+ * and compares the results pixel by pixel.
+ */
+public class FloatPrecisionValidation {
+
+    /** Per-channel color difference above which a pixel counts as visibly different. */
+    private static final int COLOR_TOLERANCE = 16;
+
+    /** Maximum fraction of visibly different pixels for the float kernel to pass. */
+    private static final double MAX_DIFFERENT_FRACTION = 0.005;
+
+    /**
+     * Largest per-channel difference between two 0xRRGGBB colors.
+     */
+    private static int maxChannelDifference(int a, int b) {
+        int dr = Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF));
+        int dg = Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF));
+        int db = Math.abs((a & 0xFF) - (b & 0xFF));
+        return Math.max(dr, Math.max(dg, db));
+    }
+
+    public static void main(String[] args) {
+        int width = 1600;
+        int height = 1200;
+        int maxIterations = 2000;
+        double xMin = -2.5, xMax = 1.0, yMin = -1.0, yMax = 1.0;
+
+        if (args.length >= 3) {
+            width = Integer.parseInt(args[0]);
+            height = Integer.parseInt(args[1]);
+            maxIterations = Integer.parseInt(args[2]);
+        }
+        if (args.length >= 7) {
+            xMin = Double.parseDouble(args[3]);
+            xMax = Double.parseDouble(args[4]);
+            yMin = Double.parseDouble(args[5]);
+            yMax = Double.parseDouble(args[6]);
+        }
+
+        boolean selected = MandelbrotUtils.canUseFloatPrecision(xMin, xMax, yMin, yMax,
+                width, height, maxIterations);
+
+        System.out.println("Float Kernel Validation");
+        System.out.println("Image size: " + width + "x" + height);
+        System.out.println("Max iterations: " + maxIterations);
+        System.out.printf("Viewport: [%g, %g] x [%g, %g]%n", xMin, xMax, yMin, yMax);
+        System.out.println("Float kernel auto-selected: " + (selected ? "yes" : "no"));
+        System.out.println("----------------------------------------");
+
+        long identical = 0;
+        long different = 0;
+        long escapeMismatches = 0;
+        long batchMismatches = 0;
+        int maxDifference = 0;
+        double sumIterationError = 0;
+        long escapedBoth = 0;
+        long doubleNanos = 0;
+        long floatNanos = 0;
+
+        float[] rowCx = new float[width];
+        double[] rowFloat = new double[width];
+        double[] rowDouble = new double[width];
+        for (int px = 0; px < width; px++) {
+            rowCx[px] = (float) (xMin + (xMax - xMin) * px / width);
+        }
+
+        for (int py = 0; py < height; py++) {
+            double cy = yMin + (yMax - yMin) * py / height;
+
+            long start = System.nanoTime();
+            for (int px = 0; px < width; px++) {
+                double cx = xMin + (xMax - xMin) * px / width;
+                rowDouble[px] = MandelbrotUtils.computeIterations(cx, cy, maxIterations);
+            }
+            long mid = System.nanoTime();
+            MandelbrotUtils.computeRowIterationsFloat(rowCx, (float) cy, maxIterations, rowFloat);
+            long end = System.nanoTime();
+            doubleNanos += mid - start;
+            floatNanos += end - mid;
+
+            for (int px = 0; px < width; px++) {
+                // The batched kernel must agree exactly with the scalar float kernel
+                double scalar = MandelbrotUtils.computeIterationsFloat(rowCx[px], (float) cy, maxIterations);
+                if (Double.compare(scalar, rowFloat[px]) != 0) {
+                    batchMismatches++;
+                }
+
+                boolean doubleInSet = rowDouble[px] >= maxIterations;
+                boolean floatInSet = rowFloat[px] >= maxIterations;
+                if (doubleInSet != floatInSet) {
+                    escapeMismatches++;
+                } else if (!doubleInSet) {
+                    sumIterationError += Math.abs(rowDouble[px] - rowFloat[px]);
+                    escapedBoth++;
+                }
+
+                int expected = MandelbrotUtils.iterationsToColor(rowDouble[px], maxIterations);
+                int actual = MandelbrotUtils.iterationsToColor(rowFloat[px], maxIterations);
+                int diff = maxChannelDifference(expected, actual);
+                maxDifference = Math.max(maxDifference, diff);
+                if (diff == 0) {
+                    identical++;
+                } else if (diff > COLOR_TOLERANCE) {
+                    different++;
+                }
+            }
+        }
+
+        long total = (long) width * height;
+        double differentFraction = (double) different / total;
+
+        System.out.printf("Identical pixels:        %d (%.3f%%)%n", identical, 100.0 * identical / total);
+        System.out.printf("Visibly different (>%d): %d (%.3f%%)%n", COLOR_TOLERANCE, different, 100.0 * differentFraction);
+        System.out.printf("Escape status mismatches: %d%n", escapeMismatches);
+        System.out.printf("Max channel difference:   %d%n", maxDifference);
+        // Averaged over pixels that escaped in both kernels; in-set pixels have no error to measure
+        System.out.printf("Mean iteration error:     %.5f%n", sumIterationError / Math.max(1, escapedBoth));
+        System.out.printf("Batch vs scalar float mismatches: %d%n", batchMismatches);
+        System.out.printf("Kernel time: double=%.3fs, float batch=%.3fs%n",
+                doubleNanos / 1_000_000_000.0, floatNanos / 1_000_000_000.0);
+
+        boolean passed = batchMismatches == 0 && differentFraction <= MAX_DIFFERENT_FRACTION;
+        System.out.println("----------------------------------------");
+        System.out.println("Result: " + (passed ? "PASS" : "FAIL"));
+        if (selected && !passed) {
+            System.out.println("WARNING: float kernel is auto-selected for this view but does not match double output");
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
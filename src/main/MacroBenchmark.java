@@ -0,0 +1,586 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Macro scaling benchmark for the row-based generator.
+ *
+ * Unlike PerformanceBenchmark, every (scenario, thread count) configuration runs
+ * in freshly forked JVMs with a fixed heap, so JIT state, heap growth and the
+ * order of configurations cannot leak from one measurement into the next.
+ * Results are written as CSV and can be checked against a saved baseline.
+ *
+ * Usage: MacroBenchmark [--scenarios a,b] [--threads 1,2,4] [--runs N] [--warmup N]
+ *                       [--forks N] [--heap SIZE] [--out FILE] [--summary FILE]
+ *                       [--baseline FILE] [--tolerance FRACTION] [--timeout SECONDS]
+ *                       [--precision auto|float|double]
+ *
+ * The kernel precision defaults to double for every scenario, so that timings of
+ * different scenarios measure the same kernel; with auto each scenario picks its
+ * own. The precision a scenario actually ran with is recorded in the results CSV.
+ *
+ * Exits with status 1 if any configuration fails (crash, OOM, timeout), if the
+ * baseline cannot be read, or if the baseline check finds a regression or a
+ * configuration without a current result.
+ */
+public class MacroBenchmark {
+
+    /**
+     * A workload: image size, iteration limit and viewport.
+     */
+    static class Scenario {
+        final String name;
+        final int width, height, maxIterations;
+        final double xMin, xMax, yMin, yMax;
+
+        Scenario(String name, int width, int height, int maxIterations,
+                 double xMin, double xMax, double yMin, double yMax) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.maxIterations = maxIterations;
+            this.xMin = xMin;
+            this.xMax = xMax;
+            this.yMin = yMin;
+            this.yMax = yMax;
+        }
+
+        /**
+         * @return Name of the kernel this scenario runs with under the given setting
+         */
+        String resolvePrecision(MandelbrotUtils.Precision precision) {
+            return MandelbrotUtils.useFloatPrecision(precision, xMin, xMax, yMin, yMax,
+                    width, height, maxIterations) ? "float" : "double";
+        }
+    }
+
+    static final Map<String, Scenario> SCENARIOS = new LinkedHashMap<>();
+
+    static {
+        add(new Scenario("full", 1600, 1200, 2000, -2.5, 1.0, -1.0, 1.0));
+        // Boundary-heavy: almost every pixel is close to the set, so costs vary widely
+        add(new Scenario("seahorse", 1600, 1200, 2000, -0.8, -0.7, 0.05, 0.125));
+        // Entirely inside the main cardioid: every pixel runs to maxIterations
+        add(new Scenario("interior", 800, 600, 2000, -0.25, 0.05, -0.1125, 0.1125));
+        // Too little work to amortize pool startup and task dispatch
+        add(new Scenario("tiny", 64, 48, 2000, -2.5, 1.0, -1.0, 1.0));
+        // Memory-heavy: large pixel buffers, cheap pixels
+        add(new Scenario("huge", 4800, 3600, 500, -2.5, 1.0, -1.0, 1.0));
+    }
+
+    private static void add(Scenario scenario) {
+        SCENARIOS.put(scenario.name, scenario);
+    }
+
+    /**
+     * Timing statistics of one (scenario, threads) configuration across all forks.
+     */
+    static class MacroResult {
+        final String scenario;
+        final int threads;
+        final String precision;
+        double[] times;
+        double mean, median, min, max, stdDev, cv;
+        double speedup = Double.NaN, efficiency = Double.NaN, karpFlatt = Double.NaN;
+
+        MacroResult(String scenario, int threads, String precision, double[] times) {
+            this.scenario = scenario;
+            this.threads = threads;
+            this.precision = precision;
+            this.times = times.clone();
+            Arrays.sort(this.times);
+
+            min = this.times[0];
+            max = this.times[this.times.length - 1];
+            median = this.times.length % 2 == 1
+                    ? this.times[this.times.length / 2]
+                    : (this.times[this.times.length / 2 - 1] + this.times[this.times.length / 2]) / 2;
+
+            double sum = 0;
+            for (double time : this.times) {
+                sum += time;
+            }
+            mean = sum / this.times.length;
+
+            double squares = 0;
+            for (double time : this.times) {
+                squares += (time - mean) * (time - mean);
+            }
+            stdDev = this.times.length > 1 ? Math.sqrt(squares / (this.times.length - 1)) : 0;
+            cv = mean > 0 ? stdDev / mean : 0;
+        }
+
+        /**
+         * Speedup relative to the single-threaded median, plus efficiency and
+         * the Karp-Flatt experimentally determined serial fraction.
+         */
+        void computeScaling(double singleThreadMedian) {
+            speedup = singleThreadMedian / median;
+            efficiency = speedup / threads;
+            if (threads > 1) {
+                karpFlatt = (1.0 / speedup - 1.0 / threads) / (1.0 - 1.0 / threads);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-9s %-6s threads=%-3d median=%.3fs, mean=%.3fs, cv=%.1f%%, speedup=%.2fx, efficiency=%.1f%%",
+                    scenario, precision, threads, median, mean, cv * 100, speedup, efficiency * 100);
+        }
+
+        public String toCsv() {
+            // CSV is machine-readable: always a '.' decimal separator, whatever the default locale
+            return String.format(Locale.ROOT, "%s,%d,%d,%.5f,%.5f,%.5f,%.5f,%.5f,%.4f,%s,%s,%s,%s",
+                    scenario, threads, times.length, mean, median, min, max, stdDev, cv,
+                    csvNumber("%.3f", speedup), csvNumber("%.4f", efficiency), csvNumber("%.4f", karpFlatt),
+                    precision);
+        }
+
+        /**
+         * Format a value that may be undefined (NaN) as an empty CSV field.
+         */
+        private static String csvNumber(String format, double value) {
+            return Double.isNaN(value) ? "" : String.format(Locale.ROOT, format, value);
+        }
+    }
+
+    /**
+     * Least-squares fit of Amdahl's law T(p) = T(1) * (f + (1 - f) / p) for the serial fraction f.
+     * Only thread counts up to the number of cores are used, since oversubscription
+     * slows things down for reasons the model does not describe.
+     *
+     * @return Fitted serial fraction in [0, 1], or NaN if fewer than one multi-threaded point
+     */
+    static double fitSerialFraction(List<MacroResult> results, double singleThreadMedian, int cores) {
+        double sxy = 0, sxx = 0;
+        for (MacroResult result : results) {
+            if (result.threads <= 1 || result.threads > cores) continue;
+            double p = result.threads;
+            // T(p)/T(1) - 1/p = f * (1 - 1/p): a line through the origin
+            double x = 1.0 - 1.0 / p;
+            double y = result.median / singleThreadMedian - 1.0 / p;
+            sxy += x * y;
+            sxx += x * x;
+        }
+        if (sxx == 0) {
+            return Double.NaN;
+        }
+        return Math.max(0.0, Math.min(1.0, sxy / sxx));
+    }
+
+    // ---------------------------------------------------------------- worker side
+
+    /**
+     * Runs inside the forked JVM: warm up, then print one TIME line per timed run.
+     */
+    private static void runWorker(String scenarioName, int threads, int warmup, int runs,
+                                  MandelbrotUtils.Precision precision) {
+        Scenario s = SCENARIOS.get(scenarioName);
+
+        for (int i = 0; i < warmup; i++) {
+            new MandelbrotRowBasedSolution(s.width, s.height, s.maxIterations,
+                    s.xMin, s.xMax, s.yMin, s.yMax, precision).generate(threads);
+        }
+
+        for (int i = 0; i < runs; i++) {
+            MandelbrotRowBasedSolution m = new MandelbrotRowBasedSolution(s.width, s.height, s.maxIterations,
+                    s.xMin, s.xMax, s.yMin, s.yMax, precision);
+            long start = System.nanoTime();
+            m.generate(threads);
+            long end = System.nanoTime();
+            System.out.println("TIME " + (end - start) / 1_000_000_000.0);
+        }
+    }
+
+    // ---------------------------------------------------------------- driver side
+
+    /**
+     * Fork a JVM for one configuration and collect its run times.
+     * The child's output goes to a temporary file so that a hung child cannot
+     * block the driver; it is killed once the timeout expires.
+     *
+     * @return Run times in seconds, or null if the fork failed or timed out
+     */
+    private static double[] fork(String scenario, int threads, int warmup, int runs,
+                                 MandelbrotUtils.Precision precision, String heap,
+                                 long timeoutSeconds) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java,
+                "-Xms" + heap, "-Xmx" + heap,
+                // An OOM inside a pool thread would otherwise only fail that row, not the JVM
+                "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"),
+                "MacroBenchmark", "--worker", scenario,
+                String.valueOf(threads), String.valueOf(warmup), String.valueOf(runs), precision.name());
+        File output = File.createTempFile("macrobench", ".out");
+        builder.redirectOutput(output);
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+
+        List<Double> times = new ArrayList<>();
+        try {
+            Process process = builder.start();
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+                System.err.println("  threads=" + threads + ": forked JVM timed out after " + timeoutSeconds + "s");
+                return null;
+            }
+            if (process.exitValue() != 0) {
+                System.err.println("  threads=" + threads + ": forked JVM exited with status " + process.exitValue());
+                return null;
+            }
+
+            try (BufferedReader reader = new BufferedReader(new FileReader(output))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("TIME ")) {
+                        times.add(Double.parseDouble(line.substring(5).trim()));
+                    }
+                }
+            }
+        } finally {
+            output.delete();
+        }
+
+        if (times.size() != runs) {
+            System.err.println("  threads=" + threads + ": expected " + runs + " timings, got " + times.size());
+            return null;
+        }
+        double[] result = new double[times.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = times.get(i);
+        }
+        return result;
+    }
+
+    private static int[] defaultThreadCounts(int cores) {
+        TreeSet<Integer> counts = new TreeSet<>();
+        for (int t = 1; t <= cores * 2; t *= 2) {
+            counts.add(t);
+        }
+        counts.add(cores);
+        counts.add(cores * 2);
+        int[] result = new int[counts.size()];
+        int i = 0;
+        for (int count : counts) {
+            result[i++] = count;
+        }
+        return result;
+    }
+
+    private static int[] parseInts(String list) {
+        String[] parts = list.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+        }
+        return result;
+    }
+
+    public static void saveResultsToCsv(List<MacroResult> results, String filename) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+            writer.println("Scenario,Threads,Samples,MeanTime,MedianTime,MinTime,MaxTime,StdDev,CV,Speedup,Efficiency,KarpFlatt,Precision");
+            for (MacroResult result : results) {
+                writer.println(result.toCsv());
+            }
+            System.out.println("Results saved to: " + filename);
+        } catch (IOException e) {
+            System.err.println("Error saving results: " + e.getMessage());
+        }
+    }
+
+    public static void saveSummaryToCsv(Map<String, Double> serialFractions, Map<String, Double> bestSpeedups,
+                                        String filename) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
+            writer.println("Scenario,SerialFraction,MaxSpeedupBound,BestSpeedup");
+            for (Map.Entry<String, Double> entry : serialFractions.entrySet()) {
+                double f = entry.getValue();
+                writer.printf(Locale.ROOT, "%s,%s,%s,%.3f%n", entry.getKey(),
+                        Double.isNaN(f) ? "" : String.format(Locale.ROOT, "%.4f", f),
+                        Double.isNaN(f) || f == 0 ? "" : String.format(Locale.ROOT, "%.2f", 1.0 / f),
+                        bestSpeedups.get(entry.getKey()));
+            }
+            System.out.println("Summary saved to: " + filename);
+        } catch (IOException e) {
+            System.err.println("Error saving summary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * One configuration of a saved results CSV.
+     */
+    static class BaselineEntry {
+        final double median, cv;
+        // null for files written before the Precision column existed
+        final String precision;
+
+        BaselineEntry(double median, double cv, String precision) {
+            this.median = median;
+            this.cv = cv;
+            this.precision = precision;
+        }
+    }
+
+    /**
+     * Read a results CSV saved by an earlier run.
+     *
+     * @return Baseline entries keyed by "scenario/threads"
+     * @throws IOException if the file is missing, empty or malformed
+     */
+    static Map<String, BaselineEntry> readBaseline(String filename) throws IOException {
+        Map<String, BaselineEntry> baseline = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line = reader.readLine(); // header
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) continue;
+                String[] fields = line.split(",", -1);
+                try {
+                    if (fields.length < 9) {
+                        throw new NumberFormatException("expected at least 9 fields, found " + fields.length);
+                    }
+                    double median = Double.parseDouble(fields[4]);
+                    double cv = Double.parseDouble(fields[8]);
+                    String precision = fields.length > 12 && !fields[12].isEmpty() ? fields[12] : null;
+                    baseline.put(fields[0] + "/" + Integer.parseInt(fields[1]), new BaselineEntry(median, cv, precision));
+                } catch (NumberFormatException e) {
+                    throw new IOException("line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        if (baseline.isEmpty()) {
+            throw new IOException("no results in file");
+        }
+        return baseline;
+    }
+
+    /**
+     * Compare median times against a baseline.
+     * A configuration regresses when it is slower than the baseline by more than
+     * the tolerance, widened to twice the worse of the two coefficients of variation
+     * so that noisy configurations don't raise false alarms. A baseline row for a
+     * scenario and thread count selected in this run but without a current result
+     * (e.g. because its fork crashed) also counts as a failure, and so does a
+     * configuration that ran with a different kernel precision than its baseline,
+     * since those timings are not comparable.
+     *
+     * @return Number of regressions and missing configurations
+     */
+    public static int checkBaseline(List<MacroResult> results, Map<String, BaselineEntry> baseline, String filename,
+                                    List<String> scenarios, int[] threadCounts, double tolerance) {
+        System.out.println("\n=== Regression Check (baseline: " + filename + ") ===");
+        int regressions = 0;
+
+        Map<String, MacroResult> current = new HashMap<>();
+        for (MacroResult result : results) {
+            current.put(result.scenario + "/" + result.threads, result);
+        }
+        for (String scenario : scenarios) {
+            for (int threads : threadCounts) {
+                String key = scenario + "/" + threads;
+                if (baseline.containsKey(key) && !current.containsKey(key)) {
+                    regressions++;
+                    System.out.printf("  %-9s threads=%-3d no current result  MISSING%n", scenario, threads);
+                }
+            }
+        }
+
+        for (MacroResult result : results) {
+            BaselineEntry base = baseline.get(result.scenario + "/" + result.threads);
+            if (base == null) {
+                System.out.printf("  %-9s threads=%-3d no baseline%n", result.scenario, result.threads);
+                continue;
+            }
+            if (base.precision != null && !base.precision.equals(result.precision)) {
+                regressions++;
+                System.out.printf("  %-9s threads=%-3d precision %s, baseline %s  PRECISION MISMATCH%n",
+                        result.scenario, result.threads, result.precision, base.precision);
+                continue;
+            }
+            double change = result.median / base.median - 1.0;
+            double allowed = Math.max(tolerance, 2 * Math.max(result.cv, base.cv));
+            boolean regressed = change > allowed;
+            if (regressed) regressions++;
+            System.out.printf("  %-9s threads=%-3d %+.1f%% (allowed %.1f%%)%s%n",
+                    result.scenario, result.threads, change * 100, allowed * 100,
+                    regressed ? "  REGRESSION" : "");
+        }
+        System.out.println(regressions == 0 ? "No regressions." : regressions + " failure(s) found.");
+        return regressions;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length >= 6 && "--worker".equals(args[0])) {
+            runWorker(args[1], Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]),
+                    MandelbrotUtils.Precision.valueOf(args[5]));
+            return;
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<String> scenarios = new ArrayList<>(SCENARIOS.keySet());
+        int[] threadCounts = defaultThreadCounts(cores);
+        int runs = 3;
+        int warmup = 2;
+        int forks = 2;
+        String heap = "1g";
+        String out = "macro_results.csv";
+        String summary = "macro_summary.csv";
+        String baseline = null;
+        double tolerance = 0.10;
+        long timeoutSeconds = 600;
+        MandelbrotUtils.Precision precision = MandelbrotUtils.Precision.DOUBLE;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--scenarios": scenarios = Arrays.asList(value.split(",")); break;
+                case "--threads": threadCounts = parseInts(value); break;
+                case "--runs": runs = Integer.parseInt(value); break;
+                case "--warmup": warmup = Integer.parseInt(value); break;
+                case "--forks": forks = Integer.parseInt(value); break;
+                case "--heap": heap = value; break;
+                case "--out": out = value; break;
+                case "--summary": summary = value; break;
+                case "--baseline": baseline = value; break;
+                case "--tolerance": tolerance = Double.parseDouble(value); break;
+                case "--timeout": timeoutSeconds = Long.parseLong(value); break;
+                case "--precision": precision = MandelbrotUtils.Precision.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+        for (String name : scenarios) {
+            if (!SCENARIOS.containsKey(name)) {
+                System.err.println("Unknown scenario: " + name + " (available: " + SCENARIOS.keySet() + ")");
+                System.exit(2);
+            }
+        }
+        // Speedup needs the single-threaded time
+        if (Arrays.stream(threadCounts).noneMatch(t -> t == 1)) {
+            int[] withOne = Arrays.copyOf(threadCounts, threadCounts.length + 1);
+            withOne[threadCounts.length] = 1;
+            Arrays.sort(withOne);
+            threadCounts = withOne;
+        }
+
+        System.out.println("Mandelbrot Macro Benchmark");
+        System.out.println("==========================");
+        System.out.println("Cores: " + cores);
+        System.out.println("Scenarios: " + scenarios);
+        System.out.println("Thread counts: " + Arrays.toString(threadCounts));
+        System.out.println("Forks per configuration: " + forks + ", warmup runs: " + warmup + ", timed runs: " + runs);
+        System.out.println("Heap per fork: " + heap + ", timeout per fork: " + timeoutSeconds + "s");
+        System.out.println("Precision: " + precision.name().toLowerCase(Locale.ROOT)
+                + (precision == MandelbrotUtils.Precision.AUTO ? " (chosen per scenario)" : " (forced for all scenarios)"));
+
+        // Read the baseline first: an unusable baseline must fail the run, not skip the check
+        Map<String, BaselineEntry> baselineResults = null;
+        if (baseline != null) {
+            try {
+                baselineResults = readBaseline(baseline);
+            } catch (IOException e) {
+                System.err.println("Could not read baseline " + baseline + ": " + e.getMessage());
+                System.exit(1);
+            }
+        }
+
+        List<String> failures = new ArrayList<>();
+        List<MacroResult> allResults = new ArrayList<>();
+        Map<String, Double> serialFractions = new LinkedHashMap<>();
+        Map<String, Double> bestSpeedups = new LinkedHashMap<>();
+
+        for (String name : scenarios) {
+            Scenario s = SCENARIOS.get(name);
+            String scenarioPrecision = s.resolvePrecision(precision);
+            System.out.printf("%n=== Scenario %s: %dx%d, maxIter=%d, view [%g, %g] x [%g, %g], %s precision ===%n",
+                    name, s.width, s.height, s.maxIterations, s.xMin, s.xMax, s.yMin, s.yMax, scenarioPrecision);
+
+            List<MacroResult> scenarioResults = new ArrayList<>();
+            for (int threads : threadCounts) {
+                double[] times = new double[forks * runs];
+                boolean failed = false;
+                for (int f = 0; f < forks && !failed; f++) {
+                    double[] forkTimes = fork(name, threads, warmup, runs, precision, heap, timeoutSeconds);
+                    if (forkTimes == null) {
+                        failed = true;
+                    } else {
+                        System.arraycopy(forkTimes, 0, times, f * runs, runs);
+                    }
+                }
+                if (failed) {
+                    System.err.println("  threads=" + threads + ": forked JVM failed, configuration has no result");
+                    failures.add(name + "/" + threads);
+                    continue;
+                }
+                MacroResult result = new MacroResult(name, threads, scenarioPrecision, times);
+                scenarioResults.add(result);
+                System.out.printf("  threads=%-3d median=%.3fs (cv=%.1f%%)%n", threads, result.median, result.cv * 100);
+            }
+
+            MacroResult single = null;
+            for (MacroResult result : scenarioResults) {
+                if (result.threads == 1) single = result;
+            }
+            if (single == null) {
+                // Keep the other configurations for the baseline check; scaling needs T(1)
+                System.err.println("  no single-threaded result, scaling not computed");
+                allResults.addAll(scenarioResults);
+                continue;
+            }
+
+            double best = 0;
+            for (MacroResult result : scenarioResults) {
+                result.computeScaling(single.median);
+                best = Math.max(best, result.speedup);
+            }
+            double f = fitSerialFraction(scenarioResults, single.median, cores);
+            serialFractions.put(name, f);
+            bestSpeedups.put(name, best);
+            allResults.addAll(scenarioResults);
+        }
+
+        // Summary
+        System.out.println("\n\n=== MACRO BENCHMARK SUMMARY ===");
+        for (MacroResult result : allResults) {
+            System.out.println(result);
+        }
+        System.out.println("\nAmdahl fit (threads <= " + cores + "):");
+        for (Map.Entry<String, Double> entry : serialFractions.entrySet()) {
+            double f = entry.getValue();
+            if (Double.isNaN(f)) {
+                System.out.printf("  %-9s serial fraction: n/a (needs more than one core)%n", entry.getKey());
+            } else {
+                System.out.printf("  %-9s serial fraction: %.4f, max speedup bound: %s%n", entry.getKey(), f,
+                        f == 0 ? "unbounded" : String.format("%.1fx", 1.0 / f));
+            }
+        }
+
+        saveResultsToCsv(allResults, out);
+        saveSummaryToCsv(serialFractions, bestSpeedups, summary);
+
+        int baselineFailures = 0;
+        if (baselineResults != null) {
+            baselineFailures = checkBaseline(allResults, baselineResults, baseline, scenarios, threadCounts, tolerance);
+        }
+
+        if (!failures.isEmpty()) {
+            System.out.println("\nFailed configurations: " + failures);
+        }
+        if (!failures.isEmpty() || baselineFailures > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,388 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Orbit-density (Buddhabrot) renderer using thread pools.
+ * Random points c are sampled, the orbit of every escaping point is traced,
+ * and each visited pixel is incremented in a density histogram.
+ *
+ * Every worker accumulates into its own private histogram shard, so the hot
+ * loop never touches shared memory. The shards are merged in parallel stripes
+ * at the end. The ATOMIC mode keeps the naive shared AtomicIntegerArray for
+ * comparison in BuddhabrotBenchmark.
+ */
+public class MandelbrotBuddhabrot {
+
+    /**
+     * How workers accumulate orbit visits.
+     */
+    public enum Accumulation {
+        /** One shared histogram updated with atomic increments (contended baseline). */
+        ATOMIC,
+        /** One private histogram per worker, merged at the end. */
+        SHARDED
+    }
+
+    /** Samples claimed by a worker at a time; also the unit of random seeding. */
+    private static final int BATCH_SIZE = 4096;
+
+    /** Resolution of the importance-sampling grid over the sampling region. */
+    private static final int GRID_SIZE = 256;
+
+    /** Probes per grid cell side when classifying cells. */
+    private static final int PROBES = 4;
+
+    /** Sampling weight of cells near the boundary relative to other cells. */
+    private static final int IMPORTANCE_BOOST = 16;
+
+
+    private final int width;
+    private final int height;
+    private final int maxIterations;
+    private final int minIterations;
+    private final long samples;
+    private final long seed;
+    private final double xMin, xMax, yMin, yMax;
+    private final double sampleMin, sampleMax;
+
+    public MandelbrotBuddhabrot(int width, int height, int maxIterations, long samples) {
+        this.width = width;
+        this.height = height;
+        this.maxIterations = maxIterations;
+        // Cells whose orbits escape slower than this are treated as boundary cells
+        this.minIterations = Math.max(1, maxIterations / 100);
+        this.samples = samples;
+        this.seed = 42;
+
+        // Default view of the Buddhabrot (4:3, covers the whole figure)
+        this.xMin = -2.2;
+        this.xMax = 1.0;
+        this.yMin = -1.2;
+        this.yMax = 1.2;
+
+        // Sampling square: [-2, 2]^2 holds every c with |c| <= 2. A c with |c| > 2 escapes
+        // after one step but still records z1 = c, so the square must also cover the view.
+        this.sampleMin = Math.min(-2.0, Math.min(xMin, yMin));
+        this.sampleMax = Math.max(2.0, Math.max(xMax, yMax));
+    }
+
+    /**
+     * Importance-sampling distribution over the grid cells.
+     * Cells get weight IMPORTANCE_BOOST if probing finds slowly escaping points or
+     * a mix of escaping and non-escaping points, and weight 1 otherwise. Each visit
+     * from a sample is scaled by IMPORTANCE_BOOST / weight so the density stays
+     * unbiased while boundary cells are sampled far more often.
+     */
+    private static class ImportanceMap {
+        final int[] weights;
+        final long[] cumulative;
+        final long totalWeight;
+
+        ImportanceMap(int[] weights) {
+            this.weights = weights;
+            this.cumulative = new long[weights.length];
+            long sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+            this.totalWeight = sum;
+        }
+
+        /**
+         * Map a uniform value in [0, totalWeight) to a cell index.
+         */
+        int cellFor(long u) {
+            int index = Arrays.binarySearch(cumulative, u + 1);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Task to classify one row of the importance grid.
+     */
+    private class ImportanceRowTask implements Callable<Void> {
+        private final int gridRow;
+        private final int[] weights;
+
+        public ImportanceRowTask(int gridRow, int[] weights) {
+            this.gridRow = gridRow;
+            this.weights = weights;
+        }
+
+        @Override
+        public Void call() {
+            double cellSize = (sampleMax - sampleMin) / GRID_SIZE;
+            for (int gridCol = 0; gridCol < GRID_SIZE; gridCol++) {
+                int escaped = 0;
+                boolean slow = false;
+                for (int i = 0; i < PROBES; i++) {
+                    for (int j = 0; j < PROBES; j++) {
+                        double cx = sampleMin + cellSize * (gridCol + (j + 0.5) / PROBES);
+                        double cy = sampleMin + cellSize * (gridRow + (i + 0.5) / PROBES);
+                        double iterations = MandelbrotUtils.computeIterations(cx, cy, maxIterations);
+                        if (iterations < maxIterations) {
+                            escaped++;
+                            slow |= iterations >= minIterations;
+                        }
+                    }
+                }
+                boolean mixed = escaped > 0 && escaped < PROBES * PROBES;
+                weights[gridRow * GRID_SIZE + gridCol] = (slow || mixed) ? IMPORTANCE_BOOST : 1;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Worker that claims batches of samples until all samples are taken.
+     * Returns its private histogram shard in SHARDED mode, or null in ATOMIC mode.
+     */
+    private class SampleTask implements Callable<int[]> {
+        private final ImportanceMap importance;
+        private final AtomicLong nextSample;
+        private final AtomicIntegerArray shared;
+
+        public SampleTask(ImportanceMap importance, AtomicLong nextSample, AtomicIntegerArray shared) {
+            this.importance = importance;
+            this.nextSample = nextSample;
+            this.shared = shared;
+        }
+
+        @Override
+        public int[] call() {
+            int[] shard = shared == null ? new int[width * height] : null;
+            double[] orbit = new double[2 * maxIterations];
+            double cellSize = (sampleMax - sampleMin) / GRID_SIZE;
+            double scaleX = width / (xMax - xMin);
+            double scaleY = height / (yMax - yMin);
+
+            long start;
+            while ((start = nextSample.getAndAdd(BATCH_SIZE)) < samples) {
+                long end = Math.min(samples, start + BATCH_SIZE);
+                // Seed per batch so the result does not depend on which worker ran it
+                SplittableRandom random = new SplittableRandom(mix64(seed + start));
+
+                for (long s = start; s < end; s++) {
+                    int cell = importance.cellFor(random.nextLong(importance.totalWeight));
+                    double cx = sampleMin + cellSize * (cell % GRID_SIZE + random.nextDouble());
+                    double cy = sampleMin + cellSize * (cell / GRID_SIZE + random.nextDouble());
+                    if (MandelbrotUtils.isInMainCardioidOrBulb(cx, cy)) {
+                        continue;
+                    }
+
+                    int length = MandelbrotUtils.traceOrbit(cx, cy, maxIterations, orbit);
+                    if (length < 0) {
+                        continue;
+                    }
+
+                    int contribution = IMPORTANCE_BOOST / importance.weights[cell];
+                    for (int k = 0; k < length; k++) {
+                        int px = (int) Math.floor((orbit[2 * k] - xMin) * scaleX);
+                        int py = (int) Math.floor((orbit[2 * k + 1] - yMin) * scaleY);
+                        if (px < 0 || px >= width || py < 0 || py >= height) {
+                            continue;
+                        }
+                        if (shard != null) {
+                            shard[py * width + px] += contribution;
+                        } else {
+                            shared.addAndGet(py * width + px, contribution);
+                        }
+                    }
+                }
+            }
+            return shard;
+        }
+    }
+
+    /**
+     * Task to sum one stripe of all shards into the final histogram.
+     */
+    private static class MergeTask implements Callable<Void> {
+        private final List<int[]> shards;
+        private final int[] histogram;
+        private final int from, to;
+
+        public MergeTask(List<int[]> shards, int[] histogram, int from, int to) {
+            this.shards = shards;
+            this.histogram = histogram;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Void call() {
+            for (int[] shard : shards) {
+                for (int i = from; i < to; i++) {
+                    histogram[i] += shard[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Finalizer from MurmurHash3, used to derive independent per-batch seeds.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Compute the orbit-density histogram (row-major, width * height).
+     * The result is identical for every thread count and accumulation mode.
+     *
+     * @param numThreads Number of threads in the pool
+     * @param mode How workers accumulate visits
+     */
+    public int[] computeHistogram(int numThreads, Accumulation mode) {
+        int[] histogram = new int[width * height];
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        try {
+            // Phase 1: build the importance map, one task per grid row
+            int[] weights = new int[GRID_SIZE * GRID_SIZE];
+            List<Callable<Void>> gridTasks = new ArrayList<>(GRID_SIZE);
+            for (int row = 0; row < GRID_SIZE; row++) {
+                gridTasks.add(new ImportanceRowTask(row, weights));
+            }
+            for (Future<Void> future : executor.invokeAll(gridTasks)) {
+                future.get();
+            }
+            ImportanceMap importance = new ImportanceMap(weights);
+
+            // Phase 2: one sampling worker per thread, batches handed out dynamically
+            AtomicLong nextSample = new AtomicLong();
+            AtomicIntegerArray shared = mode == Accumulation.ATOMIC
+                    ? new AtomicIntegerArray(width * height) : null;
+            List<Future<int[]>> futures = new ArrayList<>(numThreads);
+            for (int t = 0; t < numThreads; t++) {
+                futures.add(executor.submit(new SampleTask(importance, nextSample, shared)));
+            }
+            List<int[]> shards = new ArrayList<>(numThreads);
+            for (Future<int[]> future : futures) {
+                int[] shard = future.get();
+                if (shard != null) {
+                    shards.add(shard);
+                }
+            }
+
+            // Phase 3: merge shards, each task owning a disjoint stripe of pixels
+            if (shared != null) {
+                for (int i = 0; i < histogram.length; i++) {
+                    histogram[i] = shared.get(i);
+                }
+            } else {
+                int stripes = numThreads * 4;
+                int stripeSize = (histogram.length + stripes - 1) / stripes;
+                List<Callable<Void>> mergeTasks = new ArrayList<>(stripes);
+                for (int from = 0; from < histogram.length; from += stripeSize) {
+                    mergeTasks.add(new MergeTask(shards, histogram, from,
+                            Math.min(histogram.length, from + stripeSize)));
+                }
+                for (Future<Void> future : executor.invokeAll(mergeTasks)) {
+                    future.get();
+                }
+            }
+
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Error during parallel computation: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+            }
+        }
+
+        return histogram;
+    }
+
+    /**
+     * Generate the Buddhabrot image using sharded accumulation.
+     */
+    public BufferedImage generate(int numThreads) {
+        return toImage(computeHistogram(numThreads, Accumulation.SHARDED));
+    }
+
+    /**
+     * Map a density histogram to colors using square-root tone mapping.
+     */
+    public BufferedImage toImage(int[] histogram) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        int max = 1;
+        for (int count : histogram) {
+            max = Math.max(max, count);
+        }
+
+        int[] pixels = new int[width * height];
+        for (int i = 0; i < pixels.length; i++) {
+            double t = Math.sqrt((double) histogram[i] / max);
+            // Dark blue for sparse orbits, fading to white where they are dense
+            pixels[i] = MandelbrotUtils.hsvToRgb(220, 1.0 - t, Math.min(1.0, t * 1.5));
+        }
+
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        return image;
+    }
+
+    public void saveImage(BufferedImage image, String filename) throws IOException {
+        File outputFile = new File(filename);
+        ImageIO.write(image, "PNG", outputFile);
+        System.out.println("Image saved to: " + filename);
+    }
+
+    public static void main(String[] args) {
+        int width = 1600;
+        int height = 1200;
+        int maxIterations = 2000;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        long samples = 5_000_000;
+
+        if (args.length >= 5) {
+            width = Integer.parseInt(args[0]);
+            height = Integer.parseInt(args[1]);
+            maxIterations = Integer.parseInt(args[2]);
+            numThreads = Integer.parseInt(args[3]);
+            samples = Long.parseLong(args[4]);
+        }
+
+        System.out.println("Buddhabrot (Orbit Density) Generation");
+        System.out.println("Image size: " + width + "x" + height);
+        System.out.println("Max iterations: " + maxIterations);
+        System.out.println("Number of threads: " + numThreads);
+        System.out.println("Samples: " + samples);
+        System.out.println("----------------------------------------");
+
+        MandelbrotBuddhabrot buddhabrot = new MandelbrotBuddhabrot(width, height, maxIterations, samples);
+
+        long startTime = System.nanoTime();
+        BufferedImage image = buddhabrot.generate(numThreads);
+        long endTime = System.nanoTime();
+
+        double elapsedSeconds = (endTime - startTime) / 1_000_000_000.0;
+        System.out.printf("Generation time: %.3f seconds%n", elapsedSeconds);
+
+        try {
+            buddhabrot.saveImage(image, "mandelbrot_buddhabrot_" + numThreads + "threads.png");
+        } catch (IOException e) {
+            System.err.println("Error saving image: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,482 @@
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Incremental Mandelbrot renderer for interactive panning and deepening.
+ *
+ * A frame keeps the smooth iteration count, the integer iteration count and the
+ * last z value of every pixel.
+ * When the next viewport is the previous one shifted by whole pixels, the
+ * overlapping region is shifted in place and only the newly exposed strips are
+ * computed. When maxIterations is raised, pixels that had not escaped resume
+ * from their saved z instead of restarting. Anything else is a full render.
+ *
+ * Frames always use the double kernel, because the saved orbit state must be
+ * exact for resumed pixels to match a fresh render.
+ */
+public class MandelbrotIncremental {
+
+    /**
+     * Largest distance from a whole pixel shift that still counts as aligned, in pixels.
+     * At deep zoom the caller's viewport bounds carry rounding error that is a sizeable
+     * fraction of a pixel's width; snapping to the frame's own grid keeps retained pixels exact.
+     */
+    private static final double ALIGN_TOLERANCE = 1e-3;
+
+    /**
+     * Rendered state of one viewport. Buffers are row-major, width * height.
+     *
+     * Pixel (px, py) maps to c = origin + (offset + p) * spacing. Panning only
+     * changes the integer offsets, so a pixel keeps bit-identical c values no
+     * matter how many pans it survives.
+     */
+    public static class Frame {
+        final int width, height, maxIterations;
+        final double originX, originY, dx, dy;
+        final int offsetX, offsetY;
+        final double[] iterations;
+        final double[] zx, zy;
+        // Integer iterations performed; below maxIterations exactly when the pixel escaped
+        final int[] counts;
+        long computedPixels;
+
+        Frame(int width, int height, int maxIterations, double originX, double originY, double dx, double dy,
+              int offsetX, int offsetY, double[] iterations, double[] zx, double[] zy, int[] counts) {
+            this.width = width;
+            this.height = height;
+            this.maxIterations = maxIterations;
+            this.originX = originX;
+            this.originY = originY;
+            this.dx = dx;
+            this.dy = dy;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+            this.iterations = iterations;
+            this.zx = zx;
+            this.zy = zy;
+            this.counts = counts;
+        }
+
+        double cx(int px) {
+            return originX + (offsetX + px) * dx;
+        }
+
+        double cy(int py) {
+            return originY + (offsetY + py) * dy;
+        }
+
+        public double getXMin() {
+            return cx(0);
+        }
+
+        public double getXMax() {
+            return cx(width);
+        }
+
+        public double getYMin() {
+            return cy(0);
+        }
+
+        public double getYMax() {
+            return cy(height);
+        }
+
+        /**
+         * @return Number of pixels that were iterated (fresh or resumed) to produce this frame
+         */
+        public long getComputedPixels() {
+            return computedPixels;
+        }
+
+        /**
+         * @return Smooth iteration count of each pixel, row-major
+         */
+        public double[] getIterations() {
+            return iterations;
+        }
+
+        public BufferedImage toImage() {
+            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = new int[width * height];
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = MandelbrotUtils.iterationsToColor(iterations[i], maxIterations);
+            }
+            image.setRGB(0, 0, width, height, pixels, 0, width);
+            return image;
+        }
+    }
+
+    /**
+     * A horizontal run of pixels [x0, x1) in one row that needs work.
+     * Fresh spans are computed from scratch; resume spans only continue pixels
+     * that had not escaped at resumeFrom iterations.
+     */
+    private static class Span {
+        final int row, x0, x1;
+        final boolean resume;
+
+        Span(int row, int x0, int x1, boolean resume) {
+            this.row = row;
+            this.x0 = x0;
+            this.x1 = x1;
+            this.resume = resume;
+        }
+    }
+
+    /**
+     * Task to process a group of spans of one frame.
+     * Returns the number of pixels it iterated.
+     */
+    private static class SpanTask implements Callable<Long> {
+        private final List<Span> spans;
+        private final Frame frame;
+        private final int resumeFrom;
+
+        public SpanTask(List<Span> spans, Frame frame, int resumeFrom) {
+            this.spans = spans;
+            this.frame = frame;
+            this.resumeFrom = resumeFrom;
+        }
+
+        @Override
+        public Long call() {
+            long computed = 0;
+            for (Span span : spans) {
+                double cy = frame.cy(span.row);
+                int index = span.row * frame.width + span.x0;
+                for (int px = span.x0; px < span.x1; px++, index++) {
+                    double cx = frame.cx(px);
+                    if (!span.resume) {
+                        frame.zx[index] = 0;
+                        frame.zy[index] = 0;
+                        frame.counts[index] = 0;
+                        frame.iterations[index] = MandelbrotUtils.resumeIterations(
+                                cx, cy, frame.zx, frame.zy, frame.counts, index, frame.maxIterations);
+                        computed++;
+                    } else if (frame.counts[index] >= resumeFrom) {
+                        frame.iterations[index] = MandelbrotUtils.resumeIterations(
+                                cx, cy, frame.zx, frame.zy, frame.counts, index, frame.maxIterations);
+                        computed++;
+                    }
+                }
+            }
+            return computed;
+        }
+    }
+
+    private final int numThreads;
+    private final ExecutorService executor;
+
+    public MandelbrotIncremental(int numThreads) {
+        this.numThreads = numThreads;
+        this.executor = Executors.newFixedThreadPool(numThreads);
+    }
+
+    /**
+     * Render a viewport from scratch.
+     */
+    public Frame render(int width, int height, int maxIterations,
+                        double xMin, double xMax, double yMin, double yMax) {
+        Frame frame = new Frame(width, height, maxIterations, xMin, yMin,
+                (xMax - xMin) / width, (yMax - yMin) / height, 0, 0,
+                new double[width * height], new double[width * height], new double[width * height],
+                new int[width * height]);
+        return recompute(frame);
+    }
+
+    /**
+     * Compute every pixel of a frame from scratch.
+     */
+    private Frame recompute(Frame frame) {
+        int height = frame.height, width = frame.width;
+        List<Span> spans = new ArrayList<>(height);
+        for (int row = 0; row < height; row++) {
+            spans.add(new Span(row, 0, width, false));
+        }
+        frame.computedPixels = process(frame, spans, 0);
+        return frame;
+    }
+
+    /**
+     * Render a new viewport reusing as much of the previous frame as possible.
+     * The previous frame's buffers are reused in place, so it must not be used afterwards.
+     *
+     * @param previous Frame of the previous viewport at the same resolution
+     * @param maxIterations Iteration limit of the new frame
+     */
+    public Frame rerender(Frame previous, double xMin, double xMax, double yMin, double yMax, int maxIterations) {
+        int width = previous.width;
+        int height = previous.height;
+
+        double dx = previous.dx;
+        double dy = previous.dy;
+        double shiftX = (xMin - previous.getXMin()) / dx;
+        double shiftY = (yMin - previous.getYMin()) / dy;
+        int sx = (int) Math.round(shiftX);
+        int sy = (int) Math.round(shiftY);
+
+        boolean sameScale = Math.abs((xMax - xMin) / width - dx) <= ALIGN_TOLERANCE * dx
+                && Math.abs((yMax - yMin) / height - dy) <= ALIGN_TOLERANCE * dy;
+        boolean aligned = Math.abs(shiftX - sx) <= ALIGN_TOLERANCE && Math.abs(shiftY - sy) <= ALIGN_TOLERANCE;
+        boolean overlaps = Math.abs(sx) < width && Math.abs(sy) < height;
+
+        // Pixels that reached the old limit cannot be cut back without their z at the new limit
+        if (!sameScale || !aligned || !overlaps || maxIterations < previous.maxIterations) {
+            return render(width, height, maxIterations, xMin, xMax, yMin, yMax);
+        }
+        return reuse(previous, sx, sy, maxIterations);
+    }
+
+    /**
+     * Render the previous viewport panned by whole pixels, reusing as much of the
+     * previous frame as possible. Unlike the viewport overload this never has to
+     * decide whether the new bounds are aligned, so it stays incremental at any zoom.
+     * The previous frame's buffers are reused in place, so it must not be used afterwards.
+     *
+     * @param previous Frame of the previous viewport
+     * @param panX Pixels to move right; the new left column is old column panX
+     * @param panY Pixels to move down; the new top row is old row panY
+     * @param maxIterations Iteration limit of the new frame
+     */
+    public Frame rerender(Frame previous, int panX, int panY, int maxIterations) {
+        int width = previous.width;
+        int height = previous.height;
+        if (Math.abs(panX) >= width || Math.abs(panY) >= height || maxIterations < previous.maxIterations) {
+            // Nothing reusable, but stay on the previous pixel grid
+            return recompute(new Frame(width, height, maxIterations,
+                    previous.originX, previous.originY, previous.dx, previous.dy,
+                    previous.offsetX + panX, previous.offsetY + panY,
+                    new double[width * height], new double[width * height], new double[width * height],
+                    new int[width * height]));
+        }
+        return reuse(previous, panX, panY, maxIterations);
+    }
+
+    /**
+     * Shift an overlapping previous frame by (sx, sy) pixels and compute only what is missing.
+     */
+    private Frame reuse(Frame previous, int sx, int sy, int maxIterations) {
+        int width = previous.width;
+        int height = previous.height;
+        double dx = previous.dx;
+        double dy = previous.dy;
+
+        shift(previous.iterations, width, height, sx, sy);
+        shift(previous.zx, width, height, sx, sy);
+        shift(previous.zy, width, height, sx, sy);
+        shift(previous.counts, width, height, sx, sy);
+
+        // Stay on the previous pixel grid, so retained pixels keep their c values
+        Frame frame = new Frame(width, height, maxIterations,
+                previous.originX, previous.originY, dx, dy,
+                previous.offsetX + sx, previous.offsetY + sy,
+                previous.iterations, previous.zx, previous.zy, previous.counts);
+
+        // Retained region in new pixel coordinates
+        int keepX0 = Math.max(0, -sx), keepX1 = Math.min(width, width - sx);
+        int keepY0 = Math.max(0, -sy), keepY1 = Math.min(height, height - sy);
+        boolean deepen = maxIterations > previous.maxIterations;
+
+        List<Span> spans = new ArrayList<>();
+        for (int row = 0; row < height; row++) {
+            if (row < keepY0 || row >= keepY1) {
+                spans.add(new Span(row, 0, width, false));
+                continue;
+            }
+            if (keepX0 > 0) {
+                spans.add(new Span(row, 0, keepX0, false));
+            }
+            if (keepX1 < width) {
+                spans.add(new Span(row, keepX1, width, false));
+            }
+            if (deepen) {
+                spans.add(new Span(row, keepX0, keepX1, true));
+            }
+        }
+
+        frame.computedPixels = process(frame, spans, previous.maxIterations);
+        return frame;
+    }
+
+    /**
+     * Move the contents of a row-major buffer so that new pixel (x, y) holds
+     * old pixel (x + sx, y + sy). Rows are copied in the order that never
+     * overwrites a source row before it is read.
+     */
+    private static void shift(Object buffer, int width, int height, int sx, int sy) {
+        if (sx == 0 && sy == 0) {
+            return;
+        }
+        int x0 = Math.max(0, -sx), x1 = Math.min(width, width - sx);
+        int y0 = Math.max(0, -sy), y1 = Math.min(height, height - sy);
+        int length = x1 - x0;
+
+        if (sy >= 0) {
+            for (int y = y0; y < y1; y++) {
+                System.arraycopy(buffer, (y + sy) * width + x0 + sx, buffer, y * width + x0, length);
+            }
+        } else {
+            for (int y = y1 - 1; y >= y0; y--) {
+                System.arraycopy(buffer, (y + sy) * width + x0 + sx, buffer, y * width + x0, length);
+            }
+        }
+    }
+
+    /**
+     * Split spans into tasks of roughly equal pixel count and run them on the pool.
+     *
+     * @return Number of pixels iterated
+     */
+    private long process(Frame frame, List<Span> spans, int resumeFrom) {
+        long totalPixels = 0;
+        for (Span span : spans) {
+            totalPixels += span.x1 - span.x0;
+        }
+        // Several tasks per thread so uneven strips still balance
+        long target = Math.max(1, totalPixels / (numThreads * 8L));
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        List<Span> group = new ArrayList<>();
+        long groupPixels = 0;
+        for (Span span : spans) {
+            group.add(span);
+            groupPixels += span.x1 - span.x0;
+            if (groupPixels >= target) {
+                tasks.add(new SpanTask(group, frame, resumeFrom));
+                group = new ArrayList<>();
+                groupPixels = 0;
+            }
+        }
+        if (!group.isEmpty()) {
+            tasks.add(new SpanTask(group, frame, resumeFrom));
+        }
+
+        long computed = 0;
+        try {
+            for (Future<Long> future : executor.invokeAll(tasks)) {
+                computed += future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Error during parallel computation: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return computed;
+    }
+
+    /**
+     * Shutdown the executor properly.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(60, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+        }
+    }
+
+    public void saveImage(BufferedImage image, String filename) throws IOException {
+        File outputFile = new File(filename);
+        ImageIO.write(image, "PNG", outputFile);
+        System.out.println("Image saved to: " + filename);
+    }
+
+    /**
+     * Count pixels whose iteration counts differ between two frames.
+     */
+    private static long countDifferences(Frame a, Frame b) {
+        long differences = 0;
+        for (int i = 0; i < a.iterations.length; i++) {
+            if (Double.compare(a.iterations[i], b.iterations[i]) != 0) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    public static void main(String[] args) {
+        int width = 1600;
+        int height = 1200;
+        int maxIterations = 2000;
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        int panX = 40, panY = -25;
+
+        if (args.length >= 4) {
+            width = Integer.parseInt(args[0]);
+            height = Integer.parseInt(args[1]);
+            maxIterations = Integer.parseInt(args[2]);
+            numThreads = Integer.parseInt(args[3]);
+        }
+        if (args.length >= 6) {
+            panX = Integer.parseInt(args[4]);
+            panY = Integer.parseInt(args[5]);
+        }
+
+        System.out.println("Incremental Mandelbrot Rendering");
+        System.out.println("Image size: " + width + "x" + height);
+        System.out.println("Max iterations: " + maxIterations);
+        System.out.println("Number of threads: " + numThreads);
+        System.out.println("Pan: " + panX + ", " + panY + " pixels");
+        System.out.println("----------------------------------------");
+
+        MandelbrotIncremental renderer = new MandelbrotIncremental(numThreads);
+        try {
+            double xMin = -2.5, xMax = 1.0, yMin = -1.0, yMax = 1.0;
+            double dx = (xMax - xMin) / width, dy = (yMax - yMin) / height;
+
+            long start = System.nanoTime();
+            Frame frame = renderer.render(width, height, maxIterations, xMin, xMax, yMin, yMax);
+            System.out.printf("Full render:   %.3f seconds, %d pixels computed%n",
+                    (System.nanoTime() - start) / 1_000_000_000.0, frame.getComputedPixels());
+
+            // Raise the iteration limit: only non-escaped pixels continue
+            int deeper = maxIterations * 2;
+            start = System.nanoTime();
+            frame = renderer.rerender(frame, xMin, xMax, yMin, yMax, deeper);
+            System.out.printf("Deepen render: %.3f seconds, %d pixels computed (maxIterations=%d)%n",
+                    (System.nanoTime() - start) / 1_000_000_000.0, frame.getComputedPixels(), deeper);
+
+            Frame reference = renderer.render(width, height, deeper, xMin, xMax, yMin, yMax);
+            System.out.println("  Pixels differing from full render: " + countDifferences(frame, reference));
+
+            // Pan by whole pixels: only the exposed strips are computed
+            double pxMin = xMin + panX * dx, pxMax = xMax + panX * dx;
+            double pyMin = yMin + panY * dy, pyMax = yMax + panY * dy;
+            start = System.nanoTime();
+            frame = renderer.rerender(frame, pxMin, pxMax, pyMin, pyMax, deeper);
+            System.out.printf("Pan render:    %.3f seconds, %d pixels computed%n",
+                    (System.nanoTime() - start) / 1_000_000_000.0, frame.getComputedPixels());
+
+            // Compare against a from-scratch render of the same pixel grid
+            reference = renderer.recompute(new Frame(width, height, deeper,
+                    frame.originX, frame.originY, frame.dx, frame.dy, frame.offsetX, frame.offsetY,
+                    new double[width * height], new double[width * height], new double[width * height],
+                    new int[width * height]));
+            System.out.println("  Pixels differing from full render: " + countDifferences(frame, reference));
+
+            // Pan back by a whole-pixel offset, without going through viewport bounds
+            start = System.nanoTime();
+            frame = renderer.rerender(frame, -panX, -panY, deeper);
+            System.out.printf("Pan back:      %.3f seconds, %d pixels computed%n",
+                    (System.nanoTime() - start) / 1_000_000_000.0, frame.getComputedPixels());
+
+            reference = renderer.render(width, height, deeper, xMin, xMax, yMin, yMax);
+            System.out.println("  Pixels differing from full render: " + countDifferences(frame, reference));
+
+            try {
+                renderer.saveImage(frame.toImage(), "mandelbrot_incremental.png");
+            } catch (IOException e) {
+                System.err.println("Error saving image: " + e.getMessage());
+            }
+        } finally {
+            renderer.shutdown();
+        }
+    }
+}
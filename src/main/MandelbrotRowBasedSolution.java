@@ -15,15 +15,52 @@ public class MandelbrotRowBasedSolution {
     private final int height;
     private final int maxIterations;
     private final double xMin, xMax, yMin, yMax;
+    private final boolean useFloat;
 
     public MandelbrotRowBasedSolution(int width, int height, int maxIterations) {
+        this(width, height, maxIterations, -2.5, 1.0, -1.0, 1.0);
+    }
+
+    /**
+     * Generator for the default view with an explicit kernel precision.
+     */
+    public MandelbrotRowBasedSolution(int width, int height, int maxIterations,
+                                      MandelbrotUtils.Precision precision) {
+        this(width, height, maxIterations, -2.5, 1.0, -1.0, 1.0, precision);
+    }
+
+    /**
+     * Generator for an arbitrary viewport of the complex plane.
+     */
+    public MandelbrotRowBasedSolution(int width, int height, int maxIterations,
+                                      double xMin, double xMax, double yMin, double yMax) {
+        this(width, height, maxIterations, xMin, xMax, yMin, yMax, MandelbrotUtils.Precision.AUTO);
+    }
+
+    /**
+     * Generator for an arbitrary viewport with an explicit kernel precision.
+     *
+     * @param precision Kernel to use; AUTO picks float for shallow views
+     */
+    public MandelbrotRowBasedSolution(int width, int height, int maxIterations,
+                                      double xMin, double xMax, double yMin, double yMax,
+                                      MandelbrotUtils.Precision precision) {
         this.width = width;
         this.height = height;
         this.maxIterations = maxIterations;
-        this.xMin = -2.5;
-        this.xMax = 1.0;
-        this.yMin = -1.0;
-        this.yMax = 1.0;
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.yMin = yMin;
+        this.yMax = yMax;
+        this.useFloat = MandelbrotUtils.useFloatPrecision(precision, xMin, xMax, yMin, yMax,
+                width, height, maxIterations);
+    }
+
+    /**
+     * @return true if this generator renders with the single-precision kernel
+     */
+    public boolean usesFloatPrecision() {
+        return useFloat;
     }
 
 
@@ -42,6 +79,20 @@ public class MandelbrotRowBasedSolution {
             int[] rowData = new int[width];
             double cy = yMin + (yMax - yMin) * row / height;
 
+            if (useFloat) {
+                // Batched float kernel for shallow views
+                float[] rowCx = new float[width];
+                double[] rowIterations = new double[width];
+                for (int px = 0; px < width; px++) {
+                    rowCx[px] = (float) (xMin + (xMax - xMin) * px / width);
+                }
+                MandelbrotUtils.computeRowIterationsFloat(rowCx, (float) cy, maxIterations, rowIterations);
+                for (int px = 0; px < width; px++) {
+                    rowData[px] = MandelbrotUtils.iterationsToColor(rowIterations[px], maxIterations);
+                }
+                return rowData;
+            }
+
             for (int px = 0; px < width; px++) {
                 double cx = xMin + (xMax - xMin) * px / width;
                 double iterations = MandelbrotUtils.computeIterations(cx, cy, maxIterations);
@@ -101,6 +152,54 @@ public class MandelbrotRowBasedSolution {
         return image;
     }
 
+    /**
+     * Generate the Mandelbrot fractal on a shared scheduler instead of a private pool.
+     * Each row becomes one task, so concurrent renders interleave at row boundaries
+     * and the machine is never oversubscribed.
+     *
+     * @param scheduler Shared scheduler whose workers run the rows
+     * @param tenant Client this render is accounted to
+     * @param priority INTERACTIVE renders run ahead of BATCH renders
+     */
+    public BufferedImage generate(RenderScheduler scheduler, String tenant, RenderScheduler.Priority priority) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] pixels = new int[width * height];
+
+        try {
+            submit(scheduler, tenant, priority, pixels).await();
+            image.setRGB(0, 0, width, height, pixels, 0, width);
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Error during parallel computation: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return image;
+    }
+
+    /**
+     * Queue the rows of this render on a shared scheduler without waiting for them.
+     * The returned handle reports when the render is done and its queue and
+     * completion latencies.
+     *
+     * @param scheduler Shared scheduler whose workers run the rows
+     * @param tenant Client this render is accounted to
+     * @param priority INTERACTIVE renders run ahead of BATCH renders
+     * @param pixels Receives the 0xRRGGBB pixels, row-major (length >= width * height);
+     *               complete once the handle's await() returns
+     * @return Handle of the submitted job
+     */
+    public RenderScheduler.JobHandle submit(RenderScheduler scheduler, String tenant,
+                                            RenderScheduler.Priority priority, int[] pixels) {
+        List<Runnable> tasks = new ArrayList<>(height);
+        for (int row = 0; row < height; row++) {
+            final RowTask rowTask = new RowTask(row);
+            final int offset = row * width;
+            // Rows write disjoint ranges of the shared pixel buffer
+            tasks.add(() -> System.arraycopy(rowTask.call(), 0, pixels, offset, width));
+        }
+        return scheduler.submit(tenant, priority, tasks);
+    }
+
     public void saveImage(BufferedImage image, String filename) throws IOException {
         File outputFile = new File(filename);
         ImageIO.write(image, "PNG", outputFile);
@@ -124,9 +223,10 @@ public class MandelbrotRowBasedSolution {
         System.out.println("Image size: " + width + "x" + height);
         System.out.println("Max iterations: " + maxIterations);
         System.out.println("Number of threads: " + numThreads);
-        System.out.println("----------------------------------------");
 
         MandelbrotRowBasedSolution mandelbrot = new MandelbrotRowBasedSolution(width, height, maxIterations);
+        System.out.println("Precision: " + (mandelbrot.usesFloatPrecision() ? "float" : "double"));
+        System.out.println("----------------------------------------");
 
         long startTime = System.nanoTime();
         BufferedImage image = mandelbrot.generate(numThreads);
@@ -12,8 +12,16 @@ public class MandelbrotSequential {
     private final int height;
     private final int maxIterations;
     private final double xMin, xMax, yMin, yMax;
+    private final boolean useFloat;
 
     public MandelbrotSequential(int width, int height, int maxIterations) {
+        this(width, height, maxIterations, MandelbrotUtils.Precision.AUTO);
+    }
+
+    /**
+     * @param precision Kernel to use; AUTO picks float for shallow views
+     */
+    public MandelbrotSequential(int width, int height, int maxIterations, MandelbrotUtils.Precision precision) {
         this.width = width;
         this.height = height;
         this.maxIterations = maxIterations;
@@ -23,6 +31,17 @@ public class MandelbrotSequential {
         this.xMax = 1.0;
         this.yMin = -1.0;
         this.yMax = 1.0;
+
+        // Shallow views don't need double precision; float halves the work per lane
+        this.useFloat = MandelbrotUtils.useFloatPrecision(precision, xMin, xMax, yMin, yMax,
+                width, height, maxIterations);
+    }
+
+    /**
+     * @return true if this generator renders with the single-precision kernel
+     */
+    public boolean usesFloatPrecision() {
+        return useFloat;
     }
 
 
@@ -37,6 +56,23 @@ public class MandelbrotSequential {
         int[] pixels = new int[width * height];
         int index = 0;
 
+        if (useFloat) {
+            float[] rowCx = new float[width];
+            double[] rowIterations = new double[width];
+            for (int px = 0; px < width; px++) {
+                rowCx[px] = (float) (xMin + (xMax - xMin) * px / width);
+            }
+            for (int py = 0; py < height; py++) {
+                float cy = (float) (yMin + (yMax - yMin) * py / height);
+                MandelbrotUtils.computeRowIterationsFloat(rowCx, cy, maxIterations, rowIterations);
+                for (int px = 0; px < width; px++) {
+                    pixels[index++] = MandelbrotUtils.iterationsToColor(rowIterations[px], maxIterations);
+                }
+            }
+            image.setRGB(0, 0, width, height, pixels, 0, width);
+            return image;
+        }
+
         for (int py = 0; py < height; py++) {
             for (int px = 0; px < width; px++) {
                 // Map pixel coordinates to complex plane
@@ -80,9 +116,10 @@ public class MandelbrotSequential {
         System.out.println("Sequential Mandelbrot Generation");
         System.out.println("Image size: " + width + "x" + height);
         System.out.println("Max iterations: " + maxIterations);
-        System.out.println("----------------------------------------");
 
         MandelbrotSequential mandelbrot = new MandelbrotSequential(width, height, maxIterations);
+        System.out.println("Precision: " + (mandelbrot.usesFloatPrecision() ? "float" : "double"));
+        System.out.println("----------------------------------------");
 
         long startTime = System.nanoTime();
         BufferedImage image = mandelbrot.generate();
@@ -0,0 +1,130 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Several clients rendering concurrently, either on one shared RenderScheduler
+ * or each with its own private thread pool (the old behaviour).
+ * Reports the completion latency seen by the interactive client; on the shared
+ * scheduler it is read from each render's job handle.
+ */
+public class MultiTenantRenderDemo {
+
+    /**
+     * A client that submits a series of renders one after another.
+     */
+    private static class Client implements Runnable {
+        private final String tenant;
+        private final RenderScheduler.Priority priority;
+        private final int width, height, maxIterations, renders;
+        private final long pauseMillis;
+        private final RenderScheduler scheduler;
+        private final int privateThreads;
+        private final double[] latencies;
+        private int failures;
+
+        Client(String tenant, RenderScheduler.Priority priority, int width, int height, int maxIterations,
+               int renders, long pauseMillis, RenderScheduler scheduler, int privateThreads) {
+            this.tenant = tenant;
+            this.priority = priority;
+            this.width = width;
+            this.height = height;
+            this.maxIterations = maxIterations;
+            this.renders = renders;
+            this.pauseMillis = pauseMillis;
+            this.scheduler = scheduler;
+            this.privateThreads = privateThreads;
+            this.latencies = new double[renders];
+        }
+
+        @Override
+        public void run() {
+            int[] pixels = new int[width * height];
+            for (int i = 0; i < renders; i++) {
+                MandelbrotRowBasedSolution m = new MandelbrotRowBasedSolution(width, height, maxIterations);
+                if (scheduler != null) {
+                    RenderScheduler.JobHandle job = m.submit(scheduler, tenant, priority, pixels);
+                    try {
+                        job.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (ExecutionException e) {
+                        System.err.println(tenant + ": render failed: " + e.getCause());
+                        failures++;
+                        continue;
+                    }
+                    latencies[i] = job.getCompletionLatencyNanos() / 1_000_000.0;
+                } else {
+                    long start = System.nanoTime();
+                    m.generate(privateThreads);
+                    latencies[i] = (System.nanoTime() - start) / 1_000_000.0;
+                }
+
+                try {
+                    Thread.sleep(pauseMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void printSummary() {
+            // Failed renders leave a zero latency and are left out of the average
+            double sum = 0, max = 0;
+            for (double latency : latencies) {
+                sum += latency;
+                max = Math.max(max, latency);
+            }
+            int completed = renders - failures;
+            System.out.printf("  %-8s %-11s renders=%d, failed=%d, avg latency=%.1fms, max latency=%.1fms%n",
+                    tenant, priority, renders, failures, completed == 0 ? 0 : sum / completed, max);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        boolean shared = true;
+
+        if (args.length >= 1) {
+            shared = !"private".equals(args[0]);
+        }
+        if (args.length >= 2) {
+            numThreads = Integer.parseInt(args[1]);
+        }
+
+        System.out.println("Multi-Tenant Render Demo");
+        System.out.println("Mode: " + (shared ? "shared scheduler" : "private pool per render"));
+        System.out.println("Threads: " + numThreads + (shared ? " (total)" : " (per render)"));
+        System.out.println("----------------------------------------");
+
+        RenderScheduler scheduler = shared ? new RenderScheduler(numThreads) : null;
+
+        List<Client> clients = new ArrayList<>();
+        clients.add(new Client("alice", RenderScheduler.Priority.BATCH, 1600, 1200, 2000, 2, 0, scheduler, numThreads));
+        clients.add(new Client("bob", RenderScheduler.Priority.BATCH, 1600, 1200, 2000, 2, 0, scheduler, numThreads));
+        clients.add(new Client("viewer", RenderScheduler.Priority.INTERACTIVE, 400, 300, 500, 10, 100, scheduler, numThreads));
+
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (Client client : clients) {
+            Thread thread = new Thread(client);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.println("Per-client latency:");
+        for (Client client : clients) {
+            client.printSummary();
+        }
+        if (scheduler != null) {
+            System.out.println("Scheduler metrics:");
+            System.out.print(scheduler.metricsSummary());
+            scheduler.shutdown();
+        }
+        System.out.printf("Total time: %.3f seconds%n", elapsedSeconds);
+    }
+}
@@ -8,6 +8,26 @@ import java.io.PrintWriter;
  */
 public class PerformanceBenchmark {
 
+    /**
+     * Kernel precision for every implementation that supports the override.
+     * The tile-based template always uses the double kernel, so the others are
+     * forced to double too; otherwise shallow views would compare float against double.
+     */
+    static final MandelbrotUtils.Precision PRECISION = MandelbrotUtils.Precision.DOUBLE;
+
+    /**
+     * Instantiate a generator, passing PRECISION if it has a constructor for it.
+     */
+    private static Object newGenerator(Class<?> clazz, int width, int height, int maxIter) throws Exception {
+        try {
+            return clazz.getConstructor(int.class, int.class, int.class, MandelbrotUtils.Precision.class)
+                    .newInstance(width, height, maxIter, PRECISION);
+        } catch (NoSuchMethodException e) {
+            return clazz.getConstructor(int.class, int.class, int.class)
+                    .newInstance(width, height, maxIter);
+        }
+    }
+
     public static class BenchmarkResult {
         String implementation;
         int numThreads;
@@ -69,14 +89,14 @@ public class PerformanceBenchmark {
 
         // Warmup
         for (int i = 0; i < warmup; i++) {
-            MandelbrotSequential m = new MandelbrotSequential(width, height, maxIter);
+            MandelbrotSequential m = new MandelbrotSequential(width, height, maxIter, PRECISION);
             m.generate();
         }
 
         // Timed runs
         double[] times = new double[iterations];
         for (int i = 0; i < iterations; i++) {
-            MandelbrotSequential m = new MandelbrotSequential(width, height, maxIter);
+            MandelbrotSequential m = new MandelbrotSequential(width, height, maxIter, PRECISION);
             long start = System.nanoTime();
             m.generate();
             long end = System.nanoTime();
@@ -100,16 +120,14 @@ public class PerformanceBenchmark {
 
             // Warmup
             for (int i = 0; i < warmup; i++) {
-                Object m = clazz.getConstructor(int.class, int.class, int.class)
-                        .newInstance(width, height, maxIter);
+                Object m = newGenerator(clazz, width, height, maxIter);
                 clazz.getMethod("generate", int.class).invoke(m, numThreads);
             }
 
             // Timed runs
             double[] times = new double[iterations];
             for (int i = 0; i < iterations; i++) {
-                Object m = clazz.getConstructor(int.class, int.class, int.class)
-                        .newInstance(width, height, maxIter);
+                Object m = newGenerator(clazz, width, height, maxIter);
                 long start = System.nanoTime();
                 clazz.getMethod("generate", int.class).invoke(m, numThreads);
                 long end = System.nanoTime();
@@ -140,16 +158,14 @@ public class PerformanceBenchmark {
 
             // Warmup
             for (int i = 0; i < warmup; i++) {
-                Object m = clazz.getConstructor(int.class, int.class, int.class)
-                        .newInstance(width, height, maxIter);
+                Object m = newGenerator(clazz, width, height, maxIter);
                 clazz.getMethod("generate", int.class, int.class).invoke(m, numThreads, tileSize);
             }
 
             // Timed runs
             double[] times = new double[iterations];
             for (int i = 0; i < iterations; i++) {
-                Object m = clazz.getConstructor(int.class, int.class, int.class)
-                        .newInstance(width, height, maxIter);
+                Object m = newGenerator(clazz, width, height, maxIter);
                 long start = System.nanoTime();
                 clazz.getMethod("generate", int.class, int.class).invoke(m, numThreads, tileSize);
                 long end = System.nanoTime();
@@ -195,12 +211,13 @@ public class PerformanceBenchmark {
         System.out.println("Max iterations: " + maxIter);
         System.out.println("Warmup runs: " + warmupRuns);
         System.out.println("Benchmark runs: " + benchmarkRuns);
+        System.out.println("Precision: " + PRECISION.name().toLowerCase() + " (forced for all implementations)");
 
         java.util.List<BenchmarkResult> allResults = new java.util.ArrayList<>();
 
         // Run sequential baseline
         System.out.println("\n--- Phase 1: Sequential Baseline ---");
-        MandelbrotSequential seqM = new MandelbrotSequential(width, height, maxIter);
+        MandelbrotSequential seqM = new MandelbrotSequential(width, height, maxIter, PRECISION);
 
         // Warmup
         for (int i = 0; i < warmupRuns; i++) {
@@ -26,14 +26,249 @@ public class MandelbrotUtils {
 
         // Smooth coloring using normalized iteration count
         if (iterations < maxIterations) {
-            double log_zn = Math.log(zx * zx + zy * zy) / 2.0;
-            double nu = Math.log(log_zn / Math.log(2)) / Math.log(2);
-            return iterations + 1 - nu;
+            return smoothIterations(iterations, zx * zx + zy * zy);
         }
 
         return iterations;
     }
 
+    /**
+     * Continue iterating a point from a saved orbit state, e.g. after maxIterations
+     * was raised. Starting from z = 0 and 0 iterations this gives exactly the same
+     * result as {@link #computeIterations}. The final z and the integer iteration
+     * count are written back so the point can be resumed again later.
+     * A point has escaped exactly when its saved count is below the limit it was
+     * iterated to; the smooth value can round up to the limit and must not be used for that.
+     *
+     * @param cx Real part of complex number c
+     * @param cy Imaginary part of complex number c
+     * @param zx Real parts of saved z values (read and updated at index)
+     * @param zy Imaginary parts of saved z values (read and updated at index)
+     * @param counts Iterations already performed to reach the saved z (read and updated at index)
+     * @param index Position of this point in zx/zy/counts
+     * @param maxIterations Maximum number of iterations before considering point to be in the set
+     * @return Smooth iteration count (can be fractional for smooth coloring)
+     */
+    public static double resumeIterations(double cx, double cy, double[] zx, double[] zy, int[] counts,
+                                          int index, int maxIterations) {
+        double x = zx[index], y = zy[index];
+        int iterations = counts[index];
+
+        while (x * x + y * y < 4.0 && iterations < maxIterations) {
+            double temp = x * x - y * y + cx;
+            y = 2.0 * x * y + cy;
+            x = temp;
+            iterations++;
+        }
+
+        zx[index] = x;
+        zy[index] = y;
+        counts[index] = iterations;
+
+        if (iterations < maxIterations) {
+            return smoothIterations(iterations, x * x + y * y);
+        }
+
+        return iterations;
+    }
+
+    /**
+     * Trace the orbit of c and record every visited point, for orbit-density
+     * (Buddhabrot) rendering. Uses the same escape test as {@link #computeIterations}.
+     *
+     * @param cx Real part of complex number c
+     * @param cy Imaginary part of complex number c
+     * @param maxIterations Maximum number of iterations before considering point to be in the set
+     * @param orbit Receives the visited points as interleaved (x, y) pairs; length >= 2 * maxIterations
+     * @return Number of points recorded if the orbit escapes, or -1 if c is in the set
+     */
+    public static int traceOrbit(double cx, double cy, int maxIterations, double[] orbit) {
+        double zx = 0, zy = 0;
+        int iterations = 0;
+
+        while (zx * zx + zy * zy < 4.0 && iterations < maxIterations) {
+            double temp = zx * zx - zy * zy + cx;
+            zy = 2.0 * zx * zy + cy;
+            zx = temp;
+            orbit[2 * iterations] = zx;
+            orbit[2 * iterations + 1] = zy;
+            iterations++;
+        }
+
+        return iterations < maxIterations ? iterations : -1;
+    }
+
+    /**
+     * Cheap test for the two largest components of the set.
+     * Points inside the main cardioid or the period-2 bulb never escape,
+     * so callers can skip iterating them.
+     */
+    public static boolean isInMainCardioidOrBulb(double cx, double cy) {
+        double y2 = cy * cy;
+        double q = (cx - 0.25) * (cx - 0.25) + y2;
+        if (q * (q + (cx - 0.25)) <= 0.25 * y2) {
+            return true;
+        }
+        return (cx + 1) * (cx + 1) + y2 <= 0.0625;
+    }
+
+    /**
+     * Which kernel a generator uses. AUTO picks float when
+     * {@link #canUseFloatPrecision} allows it; FLOAT and DOUBLE force a kernel,
+     * e.g. so benchmarks compare implementations running the same arithmetic.
+     */
+    public enum Precision { AUTO, FLOAT, DOUBLE }
+
+    /**
+     * Resolve a precision setting for a viewport and iteration limit.
+     *
+     * @return true if the float kernel should be used
+     */
+    public static boolean useFloatPrecision(Precision precision, double xMin, double xMax,
+                                            double yMin, double yMax, int width, int height,
+                                            int maxIterations) {
+        switch (precision) {
+            case FLOAT: return true;
+            case DOUBLE: return false;
+            default: return canUseFloatPrecision(xMin, xMax, yMin, yMax, width, height, maxIterations);
+        }
+    }
+
+    /**
+     * Number of lanes processed together by the batched float kernel.
+     * A float lane is half the width of a double lane, so a batch of 8 floats
+     * fills the same SIMD register as 4 doubles.
+     */
+    public static final int FLOAT_LANES = 8;
+
+    /**
+     * Minimum pixel spacing, measured in float ULPs of the largest coordinate
+     * in the viewport, for which the float kernel is considered artifact-free.
+     * Below this the rounding error of c becomes visible as blocky bands.
+     */
+    public static final float FLOAT_MIN_PIXEL_ULPS = 4096f;
+
+    /**
+     * Minimum extent of the viewport, measured in float ULPs per iteration of
+     * maxIterations, for which the float kernel is considered artifact-free.
+     * Float rounding in the orbit flips pixels that lie very close to the
+     * boundary, and longer orbits are more sensitive. The closer a view zooms
+     * into the boundary, the larger the share of such pixels, whatever the
+     * resolution. Views at exactly this limit stay below the 0.5% visibly-different
+     * threshold of FloatPrecisionValidation.
+     */
+    public static final float FLOAT_MIN_VIEW_ULPS_PER_ITERATION = 4096f;
+
+    /**
+     * Single-precision version of {@link #computeIterations(double, double, int)}.
+     * Suitable for shallow views where the pixel spacing is far larger than
+     * float rounding error (see {@link #canUseFloatPrecision}).
+     *
+     * @param cx Real part of complex number c
+     * @param cy Imaginary part of complex number c
+     * @param maxIterations Maximum number of iterations before considering point to be in the set
+     * @return Smooth iteration count (can be fractional for smooth coloring)
+     */
+    public static double computeIterationsFloat(float cx, float cy, int maxIterations) {
+        float zx = 0f, zy = 0f;
+        int iterations = 0;
+
+        while (zx * zx + zy * zy < 4.0f && iterations < maxIterations) {
+            float temp = zx * zx - zy * zy + cx;
+            zy = 2.0f * zx * zy + cy;
+            zx = temp;
+            iterations++;
+        }
+
+        if (iterations < maxIterations) {
+            return smoothIterations(iterations, zx * zx + zy * zy);
+        }
+
+        return iterations;
+    }
+
+    /**
+     * Batched single-precision kernel: computes a whole row of points sharing
+     * the same imaginary part. Points are processed {@link #FLOAT_LANES} at a time
+     * in lock-step so the JIT can keep the lanes in vector registers; a lane that
+     * escapes is masked out until every lane of the batch is done.
+     *
+     * @param cx Real parts of the points in the row
+     * @param cy Imaginary part shared by the row
+     * @param maxIterations Maximum number of iterations before considering point to be in the set
+     * @param out Receives the smooth iteration count of each point (length >= cx.length)
+     */
+    public static void computeRowIterationsFloat(float[] cx, float cy, int maxIterations, double[] out) {
+        float[] zx = new float[FLOAT_LANES];
+        float[] zy = new float[FLOAT_LANES];
+        float[] cxs = new float[FLOAT_LANES];
+        int[] counts = new int[FLOAT_LANES];
+        float[] escapedNorm = new float[FLOAT_LANES];
+
+        for (int base = 0; base < cx.length; base += FLOAT_LANES) {
+            int lanes = Math.min(FLOAT_LANES, cx.length - base);
+            for (int i = 0; i < FLOAT_LANES; i++) {
+                // Pad the tail batch by repeating the last point; its result is discarded
+                cxs[i] = cx[base + Math.min(i, lanes - 1)];
+                zx[i] = 0f;
+                zy[i] = 0f;
+                counts[i] = maxIterations;
+            }
+
+            int active = FLOAT_LANES;
+            for (int iter = 0; iter < maxIterations && active > 0; iter++) {
+                for (int i = 0; i < FLOAT_LANES; i++) {
+                    if (counts[i] != maxIterations) continue;
+                    float x = zx[i], y = zy[i];
+                    float norm = x * x + y * y;
+                    if (norm >= 4.0f) {
+                        counts[i] = iter;
+                        escapedNorm[i] = norm;
+                        active--;
+                        continue;
+                    }
+                    zx[i] = x * x - y * y + cxs[i];
+                    zy[i] = 2.0f * x * y + cy;
+                }
+            }
+
+            for (int i = 0; i < lanes; i++) {
+                out[base + i] = counts[i] < maxIterations
+                        ? smoothIterations(counts[i], escapedNorm[i])
+                        : maxIterations;
+            }
+        }
+    }
+
+    /**
+     * Decide whether the float kernel can render a viewport without visible artifacts.
+     * Float is accepted when, in float ULPs at the largest coordinate magnitude in the view,
+     * adjacent pixels are at least {@link #FLOAT_MIN_PIXEL_ULPS} apart and the smaller side
+     * of the view spans at least {@link #FLOAT_MIN_VIEW_ULPS_PER_ITERATION} times maxIterations.
+     *
+     * @return true if the float kernel should be used for this viewport, resolution and iteration limit
+     */
+    public static boolean canUseFloatPrecision(double xMin, double xMax, double yMin, double yMax,
+                                               int width, int height, int maxIterations) {
+        double extent = Math.min(xMax - xMin, yMax - yMin);
+        double spacing = Math.min((xMax - xMin) / width, (yMax - yMin) / height);
+        double maxAbs = Math.max(Math.max(Math.abs(xMin), Math.abs(xMax)),
+                                 Math.max(Math.abs(yMin), Math.abs(yMax)));
+        // The orbit itself reaches |z| = 2 before escaping, so rounding is never finer than ulp(2)
+        double ulp = Math.ulp((float) Math.max(maxAbs, 2.0));
+        return spacing >= ulp * FLOAT_MIN_PIXEL_ULPS
+                && extent >= ulp * FLOAT_MIN_VIEW_ULPS_PER_ITERATION * maxIterations;
+    }
+
+    /**
+     * Normalized iteration count shared by the double and float kernels.
+     */
+    private static double smoothIterations(int iterations, double normSquared) {
+        double log_zn = Math.log(normSquared) / 2.0;
+        double nu = Math.log(log_zn / Math.log(2)) / Math.log(2);
+        return iterations + 1 - nu;
+    }
+
     /**
      * Map iteration count to the classic Mandelbrot color scheme.
      * Creates deep blue background with electric blue-cyan-white edges (like the famous images!)
@@ -0,0 +1,390 @@
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared scheduler that runs render jobs from many clients on a single worker pool.
+ *
+ * A job is a list of independent tasks, e.g. one per image row or tile. Workers
+ * pick the next task at every task boundary:
+ * - INTERACTIVE tasks always run before BATCH tasks, so an interactive job preempts
+ *   batch work as soon as the running tasks finish.
+ * - Within a priority class, tenants are served round-robin one task at a time,
+ *   so a tenant with many large jobs cannot starve the others.
+ * - A tenant's own jobs run in submission order.
+ *
+ * Batch work only runs when no interactive tasks are queued.
+ */
+public class RenderScheduler {
+
+    public enum Priority { INTERACTIVE, BATCH }
+
+    /**
+     * Handle to a submitted job: completion, failure and latency metrics.
+     */
+    public static class JobHandle {
+        private final String tenant;
+        private final Priority priority;
+        private final ArrayDeque<Runnable> pending;
+        private final long submitNanos;
+        private long startNanos;
+        private long finishNanos;
+        private int running;
+        private boolean done;
+        private Throwable failure;
+        private final RenderScheduler scheduler;
+
+        private JobHandle(RenderScheduler scheduler, String tenant, Priority priority, List<? extends Runnable> tasks) {
+            this.scheduler = scheduler;
+            this.tenant = tenant;
+            this.priority = priority;
+            this.pending = new ArrayDeque<>(tasks);
+            this.submitNanos = System.nanoTime();
+        }
+
+        public String getTenant() {
+            return tenant;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * Block until every task of the job has finished.
+         *
+         * @throws ExecutionException if a task threw; the remaining tasks were dropped
+         */
+        public void await() throws InterruptedException, ExecutionException {
+            scheduler.lock.lock();
+            try {
+                while (!done) {
+                    scheduler.jobFinished.await();
+                }
+                if (failure != null) {
+                    throw new ExecutionException(failure);
+                }
+            } finally {
+                scheduler.lock.unlock();
+            }
+        }
+
+        public boolean isDone() {
+            scheduler.lock.lock();
+            try {
+                return done;
+            } finally {
+                scheduler.lock.unlock();
+            }
+        }
+
+        /**
+         * @return Time from submission until the first task started, or -1 if not started yet
+         */
+        public long getQueueLatencyNanos() {
+            scheduler.lock.lock();
+            try {
+                return startNanos == 0 ? -1 : startNanos - submitNanos;
+            } finally {
+                scheduler.lock.unlock();
+            }
+        }
+
+        /**
+         * @return Time from submission until the last task finished, or -1 if not done yet
+         */
+        public long getCompletionLatencyNanos() {
+            scheduler.lock.lock();
+            try {
+                return done ? finishNanos - submitNanos : -1;
+            } finally {
+                scheduler.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Jobs of one tenant within one priority class, in submission order.
+     */
+    private static class TenantQueue {
+        final String tenant;
+        final ArrayDeque<JobHandle> jobs = new ArrayDeque<>();
+
+        TenantQueue(String tenant) {
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Aggregated completion latencies of one priority class.
+     * Failed jobs are only counted: they stop early, so their latency would
+     * make the class look faster than it is.
+     */
+    private static class LatencyStats {
+        long jobs;
+        long failed;
+        long totalNanos;
+        long maxNanos;
+
+        void record(long nanos) {
+            jobs++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition jobFinished = lock.newCondition();
+
+    // Per priority: round-robin order of tenants that have queued tasks, and lookup by name
+    private final Map<Priority, ArrayDeque<TenantQueue>> ready = new EnumMap<>(Priority.class);
+    private final Map<Priority, Map<String, TenantQueue>> tenants = new EnumMap<>(Priority.class);
+    private final Map<Priority, LatencyStats> latencies = new EnumMap<>(Priority.class);
+
+    private final ExecutorService workers;
+    private final int numWorkers;
+    private boolean shutdown;
+
+    public RenderScheduler(int numWorkers) {
+        this.numWorkers = numWorkers;
+        for (Priority priority : Priority.values()) {
+            ready.put(priority, new ArrayDeque<TenantQueue>());
+            tenants.put(priority, new HashMap<String, TenantQueue>());
+            latencies.put(priority, new LatencyStats());
+        }
+
+        workers = Executors.newFixedThreadPool(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            workers.submit(new Worker());
+        }
+    }
+
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+
+    /**
+     * Queue a job made of independent tasks.
+     *
+     * @param tenant Client the job is accounted to for fair sharing
+     * @param priority Priority class of the job
+     * @param tasks Independent tasks; they may run in any order and on any worker
+     * @return Handle to wait for the job and read its metrics
+     */
+    public JobHandle submit(String tenant, Priority priority, List<? extends Runnable> tasks) {
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new IllegalStateException("Scheduler has been shut down");
+            }
+
+            JobHandle job = new JobHandle(this, tenant, priority, tasks);
+            if (tasks.isEmpty()) {
+                job.startNanos = job.submitNanos;
+                finish(job);
+                return job;
+            }
+
+            TenantQueue queue = tenants.get(priority).get(tenant);
+            if (queue == null) {
+                queue = new TenantQueue(tenant);
+                tenants.get(priority).put(tenant, queue);
+                ready.get(priority).addLast(queue);
+            }
+            queue.jobs.addLast(job);
+            workAvailable.signalAll();
+            return job;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A task taken from the queues together with the job it belongs to.
+     */
+    private static class Assignment {
+        final JobHandle job;
+        final Runnable task;
+
+        Assignment(JobHandle job, Runnable task) {
+            this.job = job;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Take the next task, blocking while there is none.
+     * Must be called with the lock held.
+     *
+     * @return The next task, or null once the scheduler is shut down and drained
+     */
+    private Assignment nextTask() throws InterruptedException {
+        while (true) {
+            for (Priority priority : Priority.values()) {
+                ArrayDeque<TenantQueue> order = ready.get(priority);
+                TenantQueue queue = order.pollFirst();
+                if (queue == null) {
+                    continue;
+                }
+
+                JobHandle job = queue.jobs.peekFirst();
+                Runnable task = job.pending.pollFirst();
+                if (job.pending.isEmpty()) {
+                    queue.jobs.pollFirst();
+                }
+
+                // Rotate the tenant to the back so others get the next task
+                if (queue.jobs.isEmpty()) {
+                    tenants.get(priority).remove(queue.tenant);
+                } else {
+                    order.addLast(queue);
+                }
+
+                if (job.startNanos == 0) {
+                    job.startNanos = System.nanoTime();
+                }
+                job.running++;
+                return new Assignment(job, task);
+            }
+
+            if (shutdown) {
+                return null;
+            }
+            workAvailable.await();
+        }
+    }
+
+    /**
+     * Record the end of one task. Must be called with the lock held.
+     */
+    private void taskFinished(JobHandle job, Throwable error) {
+        job.running--;
+        if (error != null && job.failure == null) {
+            job.failure = error;
+            dropPending(job);
+        }
+        if (job.running == 0 && job.pending.isEmpty()) {
+            finish(job);
+        }
+    }
+
+    /**
+     * Remove the not-yet-started tasks of a failed job.
+     */
+    private void dropPending(JobHandle job) {
+        if (job.pending.isEmpty()) {
+            return;
+        }
+        job.pending.clear();
+        TenantQueue queue = tenants.get(job.priority).get(job.tenant);
+        if (queue != null) {
+            queue.jobs.remove(job);
+            if (queue.jobs.isEmpty()) {
+                tenants.get(job.priority).remove(job.tenant);
+                ready.get(job.priority).remove(queue);
+            }
+        }
+    }
+
+    private void finish(JobHandle job) {
+        job.finishNanos = System.nanoTime();
+        job.done = true;
+        if (job.failure != null) {
+            latencies.get(job.priority).failed++;
+        } else {
+            latencies.get(job.priority).record(job.finishNanos - job.submitNanos);
+        }
+        jobFinished.signalAll();
+    }
+
+    /**
+     * Worker loop: run tasks until the scheduler is shut down and drained.
+     */
+    private class Worker implements Runnable {
+        @Override
+        public void run() {
+            while (true) {
+                Assignment assignment;
+                lock.lock();
+                try {
+                    assignment = nextTask();
+                } catch (InterruptedException e) {
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+                if (assignment == null) {
+                    return;
+                }
+
+                Throwable error = null;
+                try {
+                    assignment.task.run();
+                } catch (Throwable t) {
+                    error = t;
+                }
+
+                lock.lock();
+                try {
+                    taskFinished(assignment.job, error);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Summary of completion latencies per priority class.
+     * Latencies cover completed jobs only; failed jobs are reported as a separate count.
+     */
+    public String metricsSummary() {
+        lock.lock();
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (Priority priority : Priority.values()) {
+                LatencyStats stats = latencies.get(priority);
+                double avg = stats.jobs == 0 ? 0 : stats.totalNanos / (double) stats.jobs / 1_000_000.0;
+                sb.append(String.format("%s: jobs=%d, failed=%d, avg latency=%.1fms, max latency=%.1fms%n",
+                        priority, stats.jobs, stats.failed, avg, stats.maxNanos / 1_000_000.0));
+            }
+            return sb.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting jobs, wait until every queued job has finished, then stop the workers.
+     * Blocks for as long as the queued work takes. If the calling thread is interrupted,
+     * the workers are interrupted and the method returns without waiting further;
+     * jobs still queued at that point never complete.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        // Workers exit only once the queues are empty
+        workers.shutdown();
+        try {
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}